@@ -0,0 +1,191 @@
+package webserver;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 같은 포트에 SO_REUSEPORT 로 바인딩된 리스너 하나와, 그 리스너 전용 acceptor 스레드 및 worker 풀을 묶은 단위.
+ * 커널이 새 연결을 샤드별 리슨 소켓에 분배하므로 accept 가 한 스레드에 몰리지 않는다.
+ */
+public class ListenerShard {
+    private static final Logger log = LoggerFactory.getLogger(ListenerShard.class);
+
+    // worker 수를 제한할 때, 느리거나 놀고 있는 연결이 worker 를 계속 붙잡지 않도록 읽기 타임아웃을 건다.
+    private static final int BOUNDED_READ_TIMEOUT_MILLIS = 10_000;
+    private static final long MIN_ACCEPT_BACKOFF_MILLIS = 10;
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1_000;
+
+    private final int id;
+    private final ServerSocketChannel channel;
+    private final ExecutorService workers;
+    private final int readTimeoutMillis;
+    private final Thread acceptor;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+
+    private volatile boolean running = true;
+
+    /**
+     * workerCount 가 0 이하이면 기존처럼 연결마다 스레드를 만들고, 양수이면 그 수만큼의 고정 worker 풀을 쓴다.
+     */
+    public ListenerShard(int id, int port, int workerCount, boolean reusePort) throws IOException {
+        this.id = id;
+        this.channel = ServerSocketChannel.open();
+        try {
+            if (reusePort) {
+                channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+            }
+            channel.bind(new InetSocketAddress(port));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setName("shard-" + id + "-worker-" + thread.getId());
+            return thread;
+        };
+        if (workerCount > 0) {
+            this.workers = Executors.newFixedThreadPool(workerCount, threadFactory);
+            this.readTimeoutMillis = BOUNDED_READ_TIMEOUT_MILLIS;
+        } else {
+            this.workers = Executors.newCachedThreadPool(threadFactory);
+            this.readTimeoutMillis = 0;
+        }
+        this.acceptor = new Thread(this::acceptLoop, "shard-" + id + "-acceptor");
+    }
+
+    public static boolean isReusePortSupported() {
+        try (ServerSocketChannel probe = ServerSocketChannel.open()) {
+            return probe.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public void start() {
+        acceptor.start();
+    }
+
+    private void acceptLoop() {
+        int failures = 0;
+        while (running) {
+            Socket connection;
+            try {
+                connection = channel.accept().socket();
+                connection.setSoTimeout(readTimeoutMillis);
+                failures = 0;
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                if (!running) {
+                    break;
+                }
+                // EMFILE 처럼 곧바로 다시 실패하는 오류에서 CPU 를 태우지 않도록 점점 길게 쉬었다가 다시 시도한다.
+                failures++;
+                long backoff = Math.min(MAX_ACCEPT_BACKOFF_MILLIS, MIN_ACCEPT_BACKOFF_MILLIS << Math.min(failures, 10));
+                log.error("Shard {} accept failed {} time(s) : {}. Retry after {} ms.", id, failures, e.getMessage(),
+                        backoff);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+                continue;
+            }
+
+            accepted.incrementAndGet();
+            try {
+                workers.execute(() -> handle(connection));
+            } catch (RejectedExecutionException e) {
+                accepted.decrementAndGet();
+                closeQuietly(connection);
+            }
+        }
+    }
+
+    private void handle(Socket connection) {
+        active.incrementAndGet();
+        try {
+            new RequestHandler(connection).run();
+        } finally {
+            active.decrementAndGet();
+            completed.incrementAndGet();
+        }
+    }
+
+    private void closeQuietly(Socket connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 더 이상 새 연결을 받지 않도록 리슨 소켓을 닫는다. 이미 넘겨받은 요청은 worker 에서 계속 처리된다.
+     */
+    public void stopAccepting() {
+        running = false;
+        acceptor.interrupt();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    /**
+     * acceptor 가 끝난 뒤 worker 풀을 닫고, 처리 중인 요청이 끝날 때까지 기다린다.
+     * 제한 시간 안에 끝나지 않으면 false 를 반환한다.
+     */
+    public boolean awaitDrain(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        TimeUnit.NANOSECONDS.timedJoin(acceptor, Math.max(0, deadline - System.nanoTime()));
+        workers.shutdown();
+        return workers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ListenerShard [id=" + id + ", accepted=" + accepted + ", active=" + active + ", completed="
+                + completed + "]";
+    }
+}
@@ -1,7 +1,8 @@
 package webserver;
 
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +10,10 @@ import org.slf4j.LoggerFactory;
 public class WebServer {
     private static final Logger log = LoggerFactory.getLogger(WebServer.class);
     private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_SHARDS = 1;
+    // 0 이면 기존처럼 연결마다 스레드를 만든다.
+    private static final int DEFAULT_WORKERS_PER_SHARD = 0;
+    private static final long DRAIN_TIMEOUT_SECONDS = 30;
 
     public static void main(String args[]) throws Exception {
         int port = 0;
@@ -18,17 +23,68 @@ public class WebServer {
             port = Integer.parseInt(args[0]);
         }
 
+        // 두번째 인자로 리스너 샤드 수를 받는다. 0 이면 CPU 코어 수만큼 샤드를 연다.
+        int shardCount = DEFAULT_SHARDS;
+        if (args != null && args.length > 1) {
+            shardCount = Integer.parseInt(args[1]);
+            if (shardCount <= 0) {
+                shardCount = Runtime.getRuntime().availableProcessors();
+            }
+        }
+
+        // 세번째 인자로 샤드별 worker 수를 받는다. 양수이면 고정 크기 풀과 읽기 타임아웃을 쓴다.
+        int workersPerShard = DEFAULT_WORKERS_PER_SHARD;
+        if (args != null && args.length > 2) {
+            workersPerShard = Integer.parseInt(args[2]);
+        }
+
+        boolean reusePort = shardCount > 1 && ListenerShard.isReusePortSupported();
+        if (shardCount > 1 && !reusePort) {
+            log.warn("SO_REUSEPORT not supported on this platform. Falling back to a single listener.");
+            shardCount = 1;
+        }
+
         // 서버소켓을 생성한다. 웹서버는 기본적으로 8080번 포트를 사용한다.
+        // 샤드마다 같은 포트에 리슨 소켓을 열고, 각자의 acceptor 와 worker 풀로 연결을 처리한다.
+        // 포트가 0 이면 첫번째 샤드가 받은 포트를 나머지 샤드도 같이 쓴다.
+        List<ListenerShard> shards = new ArrayList<>();
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                shards.add(new ListenerShard(i, port, workersPerShard, reusePort));
+                port = shards.get(0).getPort();
+            }
+        } catch (Exception e) {
+            for (ListenerShard shard : shards) {
+                shard.stopAccepting();
+                shard.awaitDrain(0, TimeUnit.SECONDS);
+            }
+            throw e;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> drain(shards), "shutdown-drain"));
+
+        shards.forEach(ListenerShard::start);
+        log.info("Web Application Server started {} port with {} listener shard(s).", port, shardCount);
+    }
 
-        try (ServerSocket listenSocket = new ServerSocket(port)) {
-            log.info("Web Application Server started {} port.", port);
+    // 모든 샤드의 accept 를 먼저 멈춘 뒤, 처리 중인 요청이 끝날 때까지 기다린다.
+    private static void drain(List<ListenerShard> shards) {
+        log.info("Shutting down. Stop accepting on {} shard(s).", shards.size());
+        shards.forEach(ListenerShard::stopAccepting);
 
-            // 클라이언트가 연결될때까지 대기한다.
-            Socket connection;
-            while ((connection = listenSocket.accept()) != null) {
-                RequestHandler requestHandler = new RequestHandler(connection);
-                requestHandler.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+        for (ListenerShard shard : shards) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                if (!shard.awaitDrain(remaining, TimeUnit.NANOSECONDS)) {
+                    log.warn("Shard {} did not drain in {} seconds. active : {}", shard.getId(),
+                            DRAIN_TIMEOUT_SECONDS, shard.getActive());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             }
+            log.info("{}", shard);
         }
     }
 }
@@ -0,0 +1,105 @@
+package webserver;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ListenerShardTest {
+    private ListenerShard first;
+    private ListenerShard second;
+    private int port;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        assumeTrue(ListenerShard.isReusePortSupported());
+
+        first = new ListenerShard(0, 0, 0, true);
+        port = first.getPort();
+        second = new ListenerShard(1, port, 0, true);
+        first.start();
+        second.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (ListenerShard shard : new ListenerShard[] { first, second }) {
+            if (shard != null) {
+                shard.stopAccepting();
+                shard.awaitDrain(5, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @Test
+    public void acceptedAcrossShards() throws Exception {
+        int clients = 20;
+        for (int i = 0; i < clients; i++) {
+            try (Socket socket = new Socket("localhost", port)) {
+                send(socket, "GET /not-exist.html HTTP/1.1\r\n\r\n");
+                assertThat(readStatusLine(socket), startsWith("HTTP/1.1 404"));
+            }
+        }
+
+        assertThat(first.getAccepted() + second.getAccepted(), is((long) clients));
+    }
+
+    @Test
+    public void drainFinishesInFlightRequest() throws Exception {
+        try (Socket inFlight = new Socket("localhost", port)) {
+            // 헤더 끝을 보내지 않아 요청이 처리 중인 상태로 남겨둔다.
+            send(inFlight, "GET /not-exist.html HTTP/1.1\r\n");
+            waitUntilActive(1);
+
+            first.stopAccepting();
+            second.stopAccepting();
+            assertThrows(ConnectException.class, () -> new Socket("localhost", port).close());
+
+            CompletableFuture<Boolean> drained = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return first.awaitDrain(5, TimeUnit.SECONDS) & second.awaitDrain(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            send(inFlight, "\r\n");
+            assertThat(readStatusLine(inFlight), startsWith("HTTP/1.1 404"));
+            assertThat(drained.get(10, TimeUnit.SECONDS), is(true));
+            assertThat(first.getCompleted() + second.getCompleted(), is(1L));
+        }
+    }
+
+    private void waitUntilActive(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (first.getActive() + second.getActive() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(first.getActive() + second.getActive(), is(expected));
+    }
+
+    private void send(Socket socket, String data) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(data.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private String readStatusLine(Socket socket) throws IOException {
+        BufferedReader br = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        return br.readLine();
+    }
+}